@@ -0,0 +1,362 @@
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low-overhead metrics shared by all the apps: lock-free counters and
+ * fixed-memory latency histograms, exposed over JMX and dumped periodically
+ * to a local file.
+ *
+ * Metrics are off unless the JVM is started with -Dapp.metrics=true. When off,
+ * every recording call is a single check of a static final flag.
+ *
+ * EDT dispatch latency (edt.dispatchLatency) comes from the EdtWatchdog probe,
+ * which EdtWatchdog.install() also starts when only metrics are enabled.
+ *
+ * Optional settings:
+ *   -Dapp.metrics.file=<MainClass>-metrics.txt   dump file location
+ *   -Dapp.metrics.intervalSeconds=10       dump interval
+ */
+public final class AppMetrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("app.metrics");
+
+    // Main class of this JVM, used to keep files from different apps apart
+    public static final String APP_NAME = detectAppName();
+
+    private static final long DEFAULT_DUMP_INTERVAL_SECONDS = 10;
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) {
+            start();
+        }
+    }
+
+    private AppMetrics() {
+    }
+
+    // --- Registry ---
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Monotonically increasing event count.
+     */
+    public static final class Counter {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        public void increment() {
+            if (ENABLED) {
+                count.increment();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long get() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * Records durations into a latency histogram. Usage:
+     *
+     *   long start = TIMER.start();
+     *   ... work ...
+     *   TIMER.stop(start);
+     */
+    public static final class Timer {
+        private final String name;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        public long start() {
+            return ENABLED ? System.nanoTime() : 0L;
+        }
+
+        public void stop(long startNanos) {
+            if (ENABLED) {
+                histogram.record(System.nanoTime() - startNanos);
+            }
+        }
+
+        public void record(long nanos) {
+            if (ENABLED) {
+                histogram.record(nanos);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    /**
+     * HDR-style histogram with log-linear buckets: values are grouped by their
+     * power of two, and each power of two is split into 16 linear sub-buckets,
+     * giving about 6% relative precision. Memory is fixed no matter how many
+     * values are recorded, and recording is lock-free.
+     */
+    public static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;   // 32
+        private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;   // 16
+        private static final int MAX_VALUE_BITS = 40;                       // ~18 minutes in nanoseconds
+        private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+        private static final int BUCKET_COUNT =
+                SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            if (value < 0) {
+                value = 0;
+            } else if (value > MAX_VALUE) {
+                value = MAX_VALUE;
+            }
+            buckets.incrementAndGet(indexFor(value));
+            count.increment();
+            sum.add(value);
+
+            long currentMax;
+            while (value > (currentMax = max.get())) {
+                if (max.compareAndSet(currentMax, value)) {
+                    break;
+                }
+            }
+        }
+
+        static int indexFor(long value) {
+            if (value < SUB_BUCKET_COUNT) {
+                return (int) value;
+            }
+            int highestBit = 63 - Long.numberOfLeadingZeros(value);
+            int shift = highestBit - (SUB_BUCKET_BITS - 1);
+            int mantissa = (int) (value >>> shift);                  // in [16, 31]
+            return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (mantissa - SUB_BUCKET_HALF);
+        }
+
+        /**
+         * Midpoint of the value range covered by a bucket.
+         */
+        static long valueFor(int index) {
+            if (index < SUB_BUCKET_COUNT) {
+                return index;
+            }
+            int offset = index - SUB_BUCKET_COUNT;
+            int shift = offset / SUB_BUCKET_HALF + 1;
+            long mantissa = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+            return (mantissa << shift) + ((1L << shift) >> 1);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long n = count.sum();
+            return n == 0 ? 0 : (double) sum.sum() / n;
+        }
+
+        /**
+         * Approximate value at the given percentile (0-100).
+         */
+        public long getPercentile(double percentile) {
+            long[] snapshot = new long[BUCKET_COUNT];
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += snapshot[i];
+                if (seen >= target) {
+                    return Math.min(valueFor(i), max.get());
+                }
+            }
+            return max.get();
+        }
+    }
+
+    // --- JMX ---
+
+    /**
+     * Read-only JMX view of all metrics.
+     */
+    public interface MetricsMXBean {
+        Map<String, Long> getCounters();
+
+        Map<String, String> getTimers();
+
+        String getReport();
+    }
+
+    private static final class MetricsBean implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getCounters() {
+            Map<String, Long> values = new TreeMap<>();
+            COUNTERS.forEach((name, counter) -> values.put(name, counter.get()));
+            return values;
+        }
+
+        @Override
+        public Map<String, String> getTimers() {
+            Map<String, String> values = new TreeMap<>();
+            TIMERS.forEach((name, timer) -> values.put(name, summarize(timer.getHistogram())));
+            return values;
+        }
+
+        @Override
+        public String getReport() {
+            return report();
+        }
+    }
+
+    // --- Reporting ---
+
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# App metrics for ").append(APP_NAME)
+          .append(" (pid ").append(ProcessHandle.current().pid()).append(") at ")
+          .append(Instant.now()).append(System.lineSeparator());
+        new TreeMap<>(COUNTERS).forEach((name, counter) ->
+                sb.append(String.format("counter %-28s %d%n", name, counter.get())));
+        new TreeMap<>(TIMERS).forEach((name, timer) ->
+                sb.append(String.format("timer   %-28s %s%n", name, summarize(timer.getHistogram()))));
+        return sb.toString();
+    }
+
+    private static String summarize(LatencyHistogram h) {
+        return String.format("count=%d mean=%s p50=%s p90=%s p99=%s p99.9=%s max=%s",
+                h.getCount(), formatNanos((long) h.getMean()), formatNanos(h.getPercentile(50)),
+                formatNanos(h.getPercentile(90)), formatNanos(h.getPercentile(99)),
+                formatNanos(h.getPercentile(99.9)), formatNanos(h.getMax()));
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        } else if (nanos < 1_000_000) {
+            return String.format("%.1fus", nanos / 1_000.0);
+        } else {
+            return String.format("%.2fms", nanos / 1_000_000.0);
+        }
+    }
+
+    // --- Startup (only when enabled) ---
+
+    private static void start() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new MetricsBean(), new ObjectName("JavaAPPProjects:type=AppMetrics"));
+        } catch (Exception e) {
+            System.err.println("AppMetrics: JMX registration failed: " + e);
+        }
+
+        Path dumpFile = Paths.get(System.getProperty("app.metrics.file", APP_NAME + "-metrics.txt"));
+        long interval = Long.getLong("app.metrics.intervalSeconds", DEFAULT_DUMP_INTERVAL_SECONDS);
+        if (interval <= 0) {
+            // A bad flag must not stop the app: this runs in the static initializer
+            System.err.println("AppMetrics: app.metrics.intervalSeconds must be positive, using "
+                    + DEFAULT_DUMP_INTERVAL_SECONDS);
+            interval = DEFAULT_DUMP_INTERVAL_SECONDS;
+        }
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "app-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> dumpQuietly(dumpFile), interval, interval, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> dumpQuietly(dumpFile), "app-metrics-final-dump"));
+    }
+
+    /**
+     * Simple name of the main class (or jar) this JVM was started with.
+     */
+    private static String detectAppName() {
+        String command = System.getProperty("sun.java.command", "").trim();
+        if (command.isEmpty()) {
+            return "app";
+        }
+        String main = command.split("\\s+")[0];
+        if (main.endsWith(".jar")) {
+            main = Paths.get(main).getFileName().toString();
+            return main.substring(0, main.length() - ".jar".length());
+        }
+        return main.substring(main.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Writes the current report to the dump file, replacing it atomically.
+     */
+    public static void dump(Path file) {
+        try {
+            Path absolute = file.toAbsolutePath();
+            Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+            Files.write(temp, report().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void dumpQuietly(Path file) {
+        try {
+            dump(file);
+        } catch (UncheckedIOException e) {
+            System.err.println("AppMetrics: dump failed: " + e.getMessage());
+        }
+    }
+}
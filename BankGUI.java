@@ -23,6 +23,11 @@ public class BankGUI extends JFrame implements ActionListener {
     // Currency formatter
     private final NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(Locale.US);
 
+    // --- Metrics ---
+    private static final AppMetrics.Timer TRANSACTION_TIMER = AppMetrics.timer("bank.transaction");
+    private static final AppMetrics.Timer PAINT_TIMER = AppMetrics.timer("bank.paintComponent");
+    private static final AppMetrics.Counter FAILED_TRANSACTIONS = AppMetrics.counter("bank.transaction.failed");
+
     /**
      * Inner Class: The OOP Core for Bank Account Management
      */
@@ -199,6 +204,7 @@ public class BankGUI extends JFrame implements ActionListener {
 
         @Override
         protected void paintComponent(Graphics g) {
+            long paintStart = PAINT_TIMER.start();
             super.paintComponent(g);
             Graphics2D g2 = (Graphics2D) g.create();
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -224,6 +230,7 @@ public class BankGUI extends JFrame implements ActionListener {
             g2.draw(new RoundRectangle2D.Float(0, 0, w - 1, h - 1, arc, arc));
 
             g2.dispose();
+            PAINT_TIMER.stop(paintStart);
         }
     }
 
@@ -245,6 +252,7 @@ public class BankGUI extends JFrame implements ActionListener {
             boolean success = false;
             String message;
 
+            long transactionStart = TRANSACTION_TIMER.start();
             if (command.equals("deposit")) {
                 success = account.deposit(amount);
                 message = success ? "Deposit successful!" : "Invalid deposit amount.";
@@ -258,6 +266,10 @@ public class BankGUI extends JFrame implements ActionListener {
             } else {
                 return;
             }
+            TRANSACTION_TIMER.stop(transactionStart);
+            if (!success) {
+                FAILED_TRANSACTIONS.increment();
+            }
 
             updateBalanceDisplay();
             JOptionPane.showMessageDialog(this, message, success ? "Success" : "Failure", success ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
@@ -279,6 +291,7 @@ public class BankGUI extends JFrame implements ActionListener {
     public static void main(String[] args) {
         // Create the BankAccount object and launch the GUI
         BankAccount myAccount = new BankAccount("Alex F. Aero", "1234567890", 5000.75);
+        EdtWatchdog.install();
         SwingUtilities.invokeLater(() -> new BankGUI(myAccount));
     }
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-safe catalog of courses with seat limits and waitlists.
+ * Every course keeps its own atomic counters, so registrations for different
+ * courses never contend and there is no global lock.
+ */
+public class CourseCatalog {
+
+    /**
+     * Result of a single registration attempt.
+     */
+    public enum Outcome {
+        ENROLLED, WAITLISTED, ALREADY_REGISTERED, FULL, UNKNOWN_COURSE
+    }
+
+    private enum Status { PENDING, ENROLLED, WAITLISTED }
+
+    private final Map<String, Course> courses = new ConcurrentHashMap<>();
+
+    /**
+     * A course with a fixed number of seats and a bounded FIFO waitlist.
+     */
+    public static class Course {
+        private final String code;
+        private final String title;
+        private final int capacity;
+        private final int waitlistCapacity;
+
+        private final AtomicInteger seatsTaken = new AtomicInteger();
+        private final AtomicInteger waitlistSize = new AtomicInteger();
+        private final Map<String, Status> registrations = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<String> waitlist = new ConcurrentLinkedQueue<>();
+
+        public Course(String code, String title, int capacity, int waitlistCapacity) {
+            if (capacity < 0 || waitlistCapacity < 0) {
+                throw new IllegalArgumentException("Capacities must not be negative.");
+            }
+            this.code = code;
+            this.title = title;
+            this.capacity = capacity;
+            this.waitlistCapacity = waitlistCapacity;
+        }
+
+        // --- Seat Allocation (lock-free) ---
+
+        private Outcome register(String studentId) {
+            // Claim the student's slot first so concurrent duplicates are rejected
+            if (registrations.putIfAbsent(studentId, Status.PENDING) != null) {
+                return Outcome.ALREADY_REGISTERED;
+            }
+
+            // Students already waiting get freed seats first, so only skip the queue when it is empty
+            if (waitlist.isEmpty() && tryClaimSeat()) {
+                registrations.put(studentId, Status.ENROLLED);
+                return Outcome.ENROLLED;
+            }
+
+            if (!tryClaimWaitlistSlot()) {
+                registrations.remove(studentId);
+                return Outcome.FULL;
+            }
+            registrations.put(studentId, Status.WAITLISTED);
+            waitlist.add(studentId);
+
+            // A seat may be free (or have been released while we were queueing); fill it in order
+            promoteWaitlisted();
+            return registrations.get(studentId) == Status.ENROLLED ? Outcome.ENROLLED : Outcome.WAITLISTED;
+        }
+
+        private boolean drop(String studentId) {
+            // Only remove settled registrations: deleting a PENDING claim would let a concurrent
+            // duplicate register() through and leak a seat
+            if (registrations.remove(studentId, Status.ENROLLED)) {
+                seatsTaken.decrementAndGet();
+                promoteWaitlisted();
+                return true;
+            }
+            if (registrations.remove(studentId, Status.WAITLISTED)) {
+                if (waitlist.remove(studentId)) {
+                    waitlistSize.decrementAndGet();
+                }
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Moves students from the head of the waitlist into free seats, in arrival order.
+         */
+        private void promoteWaitlisted() {
+            while (!waitlist.isEmpty() && tryClaimSeat()) {
+                String next = waitlist.poll();
+                if (next == null) {
+                    // Another promoter took the last waiting student; give the seat back and
+                    // look again, since someone may have joined the waitlist in the meantime
+                    seatsTaken.decrementAndGet();
+                    continue;
+                }
+                waitlistSize.decrementAndGet();
+                // The student may have dropped out while still queued; give the seat to the next one
+                if (!registrations.replace(next, Status.WAITLISTED, Status.ENROLLED)) {
+                    seatsTaken.decrementAndGet();
+                }
+            }
+        }
+
+        private boolean tryClaimSeat() {
+            int taken;
+            do {
+                taken = seatsTaken.get();
+                if (taken >= capacity) {
+                    return false;
+                }
+            } while (!seatsTaken.compareAndSet(taken, taken + 1));
+            return true;
+        }
+
+        private boolean tryClaimWaitlistSlot() {
+            int queued;
+            do {
+                queued = waitlistSize.get();
+                if (queued >= waitlistCapacity) {
+                    return false;
+                }
+            } while (!waitlistSize.compareAndSet(queued, queued + 1));
+            return true;
+        }
+
+        // --- Accessors ---
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public int getWaitlistCapacity() {
+            return waitlistCapacity;
+        }
+
+        public int getSeatsTaken() {
+            return seatsTaken.get();
+        }
+
+        public int getWaitlistSize() {
+            return waitlistSize.get();
+        }
+
+        /**
+         * Counts enrolled students directly; slower than getSeatsTaken() but useful for consistency checks.
+         */
+        public int countEnrolled() {
+            int enrolled = 0;
+            for (Status status : registrations.values()) {
+                if (status == Status.ENROLLED) {
+                    enrolled++;
+                }
+            }
+            return enrolled;
+        }
+
+        public boolean isEnrolled(String studentId) {
+            return registrations.get(studentId) == Status.ENROLLED;
+        }
+
+        @Override
+        public String toString() {
+            return code + " - " + title + " (" + seatsTaken.get() + "/" + capacity + ")";
+        }
+    }
+
+    public Course addCourse(String code, String title, int capacity, int waitlistCapacity) {
+        Course course = new Course(code, title, capacity, waitlistCapacity);
+        if (courses.putIfAbsent(code, course) != null) {
+            throw new IllegalArgumentException("Course already exists: " + code);
+        }
+        return course;
+    }
+
+    public Course getCourse(String code) {
+        return courses.get(code);
+    }
+
+    /**
+     * Snapshot of all courses, ordered by course code.
+     */
+    public List<Course> getCourses() {
+        List<Course> snapshot = new ArrayList<>(courses.values());
+        snapshot.sort(Comparator.comparing(Course::getCode));
+        return snapshot;
+    }
+
+    public Outcome register(String studentId, String courseCode) {
+        Course course = courses.get(courseCode);
+        if (course == null) {
+            return Outcome.UNKNOWN_COURSE;
+        }
+        return course.register(studentId);
+    }
+
+    /**
+     * Removes a student from a course (seat or waitlist). Returns false if they were not registered.
+     */
+    public boolean drop(String studentId, String courseCode) {
+        Course course = courses.get(courseCode);
+        return course != null && course.drop(studentId);
+    }
+
+    /**
+     * Small catalog used by the registration form.
+     */
+    public static CourseCatalog createDefault() {
+        CourseCatalog catalog = new CourseCatalog();
+        catalog.addCourse("CS101", "Introduction to Programming", 60, 20);
+        catalog.addCourse("CS201", "Data Structures", 40, 15);
+        catalog.addCourse("CS305", "Advanced Programming Practice", 30, 10);
+        catalog.addCourse("MA102", "Discrete Mathematics", 50, 20);
+        return catalog;
+    }
+}
@@ -0,0 +1,419 @@
+import java.awt.EventQueue;
+import java.awt.Window;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Detects when the Event Dispatch Thread is stuck and records what it was doing.
+ *
+ * A background thread keeps a small probe event queued on the EDT. If the probe
+ * has not run within the threshold, the EDT is stalled: its stack is captured,
+ * the stall is attributed to the listener or paint method that the innermost
+ * event dispatch called into, and the sample is written to a
+ * fixed-size ring buffer file. Sampling repeats every threshold while the
+ * stall lasts, so long stalls produce several samples.
+ *
+ * Modal dialogs keep pumping events, so an open JOptionPane is not a stall.
+ *
+ * The same probe feeds edt.dispatchLatency in AppMetrics. With only
+ * -Dapp.metrics=true set, install() runs the probe without stall detection.
+ *
+ * Enabled with -Dapp.edtWatchdog=true. Optional settings:
+ *   -Dapp.edtWatchdog.thresholdMs=500        stall threshold
+ *   -Dapp.edtWatchdog.file=<MainClass>-edt-stalls.ring   ring buffer file
+ *   -Dapp.edtWatchdog.slots=256              number of samples kept
+ *
+ * The ring file is locked while in use. If another process holds it, the
+ * watchdog tries a small fixed set of fallback files (name-1 to name-4), so
+ * the number of ring files on disk stays bounded.
+ *
+ * To read the samples back: java EdtWatchdog <ring file>
+ * Stall attribution is checked by EdtWatchdogCheck.
+ */
+public final class EdtWatchdog {
+
+    public static final boolean ENABLED = Boolean.getBoolean("app.edtWatchdog");
+
+    private static final AppMetrics.Counter STALLS = AppMetrics.counter("edt.stalls");
+    private static final AppMetrics.Timer STALL_DURATION = AppMetrics.timer("edt.stallDuration");
+    private static final AppMetrics.Timer DISPATCH_LATENCY = AppMetrics.timer("edt.dispatchLatency");
+
+    private static final long DEFAULT_THRESHOLD_MS = 500;
+    private static final int DEFAULT_SLOTS = 256;
+    private static final int FALLBACK_FILES = 4;
+
+    // Probe interval when only metrics are enabled
+    private static final long METRICS_ONLY_POLL_MS = 100;
+
+    private static EdtWatchdog instance;
+
+    private final long thresholdNanos;
+    private final long pollMillis;
+    private final StallRingFile ringFile;   // null when only metrics are enabled
+
+    // Written by the watchdog thread when a probe is posted, cleared by the EDT when it runs
+    private volatile long probePostedAt;
+    private volatile Thread edtThread;
+
+    // Only touched by the watchdog thread
+    private long lastSampleAt;
+    private long stalledProbe;
+    private long stallCount;
+
+    private EdtWatchdog(long thresholdMillis, StallRingFile ringFile) {
+        if (thresholdMillis <= 0) {
+            throw new IllegalArgumentException("Stall threshold must be positive.");
+        }
+        this.thresholdNanos = thresholdMillis * 1_000_000L;
+        this.pollMillis = Math.max(5, Math.min(METRICS_ONLY_POLL_MS, thresholdMillis / 4));
+        this.ringFile = ringFile;
+    }
+
+    /**
+     * Starts the EDT probe if the watchdog or metrics are enabled. Safe to call more than once.
+     */
+    public static synchronized void install() {
+        if (instance != null || !(ENABLED || AppMetrics.ENABLED)) {
+            return;
+        }
+        if (ENABLED) {
+            instance = createStallWatchdog();
+        }
+        if (instance == null) {
+            // Watchdog off or its ring file unavailable: keep the probe for edt.dispatchLatency
+            instance = probeOnly();
+        }
+        // Learn which thread is the EDT before the app queues its window construction,
+        // so a stall while the first window is being built can already be sampled
+        EdtWatchdog watchdog = instance;
+        EventQueue.invokeLater(() -> watchdog.edtThread = Thread.currentThread());
+        startThread();
+    }
+
+    /**
+     * Watchdog with stall sampling, or null if its ring file cannot be used.
+     */
+    private static EdtWatchdog createStallWatchdog() {
+        long threshold = Long.getLong("app.edtWatchdog.thresholdMs", DEFAULT_THRESHOLD_MS);
+        if (threshold <= 0) {
+            // Otherwise every queued probe would count as a stall
+            System.err.println("EdtWatchdog: app.edtWatchdog.thresholdMs must be positive, using " + DEFAULT_THRESHOLD_MS);
+            threshold = DEFAULT_THRESHOLD_MS;
+        }
+        Path file = Paths.get(System.getProperty("app.edtWatchdog.file", AppMetrics.APP_NAME + "-edt-stalls.ring"));
+        int slots = Integer.getInteger("app.edtWatchdog.slots", DEFAULT_SLOTS);
+        if (slots <= 0) {
+            System.err.println("EdtWatchdog: app.edtWatchdog.slots must be positive, using " + DEFAULT_SLOTS);
+            slots = DEFAULT_SLOTS;
+        }
+        try {
+            StallRingFile ringFile = StallRingFile.open(file, slots);
+            // Another process is writing to this file; take the first free fallback
+            for (int i = 1; ringFile == null && i <= FALLBACK_FILES; i++) {
+                ringFile = StallRingFile.open(withSuffix(file, i), slots);
+            }
+            if (ringFile == null) {
+                System.err.println("EdtWatchdog: " + file + " and its fallbacks are locked by other processes");
+                return null;
+            }
+            return new EdtWatchdog(threshold, ringFile);
+        } catch (IOException e) {
+            System.err.println("EdtWatchdog: cannot open " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Probe without stall detection: no ring file and a threshold that is never reached.
+     */
+    private static EdtWatchdog probeOnly() {
+        return new EdtWatchdog(Long.MAX_VALUE / 1_000_000L, null);
+    }
+
+    private static void startThread() {
+        Thread thread = new Thread(instance::run, "edt-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static Path withSuffix(Path file, int index) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String suffix = "-" + index;
+        String renamed = dot > 0 ? name.substring(0, dot) + suffix + name.substring(dot) : name + suffix;
+        return file.resolveSibling(renamed);
+    }
+
+    // --- Watchdog Loop ---
+
+    private void run() {
+        while (true) {
+            long posted = probePostedAt;
+            long now = System.nanoTime();
+            if (posted == 0) {
+                // Only probe while a window is open so AWT can still shut down on its own
+                if (hasDisplayableWindow()) {
+                    postProbe(now);
+                }
+            } else if (ringFile != null && now - posted >= thresholdNanos && now - lastSampleAt >= thresholdNanos) {
+                if (posted != stalledProbe) {
+                    // Count the stall as soon as it is detected, so hangs that never recover still show up
+                    stalledProbe = posted;
+                    stallCount++;
+                    STALLS.increment();
+                }
+                sample(now - posted);
+                lastSampleAt = now;
+            }
+
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void postProbe(long now) {
+        probePostedAt = now;
+        EventQueue.invokeLater(() -> {
+            long waited = System.nanoTime() - probePostedAt;
+            edtThread = Thread.currentThread();
+            probePostedAt = 0;
+            DISPATCH_LATENCY.record(waited);
+            // The stall was already counted by the watchdog thread; only its length is known now
+            if (waited >= thresholdNanos) {
+                STALL_DURATION.record(waited);
+            }
+        });
+    }
+
+    private static boolean hasDisplayableWindow() {
+        for (Window window : Window.getWindows()) {
+            if (window.isDisplayable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sample(long stalledNanos) {
+        Thread edt = edtThread;
+        if (edt == null) {
+            // install() was called after the EDT was already stuck; nothing to attribute
+            return;
+        }
+        ThreadInfo info = ManagementFactory.getThreadMXBean().getThreadInfo(edt.getId(), Integer.MAX_VALUE);
+        if (info == null) {
+            return;
+        }
+        StackTraceElement[] stack = info.getStackTrace();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("app=").append(AppMetrics.APP_NAME)
+          .append(" pid=").append(ProcessHandle.current().pid())
+          .append(" time=").append(Instant.now())
+          .append(" stall=").append(stallCount)
+          .append(" stalledMs=").append(stalledNanos / 1_000_000)
+          .append(" state=").append(info.getThreadState());
+        if (info.getLockName() != null) {
+            sb.append(" lock=").append(info.getLockName());
+            if (info.getLockOwnerName() != null) {
+                sb.append(" owner=").append(info.getLockOwnerName());
+            }
+        }
+        sb.append('\n');
+        sb.append("handler=").append(findHandler(stack)).append('\n');
+        sb.append("blockedAt=").append(stack.length > 0 ? stack[0] : "unknown").append('\n');
+        for (StackTraceElement frame : stack) {
+            sb.append("\tat ").append(frame).append('\n');
+        }
+
+        try {
+            ringFile.append(sb.toString());
+        } catch (IOException e) {
+            System.err.println("EdtWatchdog: cannot write sample: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The listener or paint method responsible for a stall: the first application
+     * frame above the innermost event dispatch. A modal dialog runs its own event
+     * loop inside the handler that opened it, so the outer dispatch only tells us
+     * who opened the dialog, not what is stuck now.
+     */
+    static String findHandler(StackTraceElement[] stack) {
+        int dispatch = innermostDispatchFrame(stack);
+        int from = dispatch >= 0 ? dispatch - 1 : stack.length - 1;
+        for (int i = from; i >= 0; i--) {
+            if (isApplicationFrame(stack[i])) {
+                return stack[i].toString();
+            }
+        }
+        return "unknown (no application frame)";
+    }
+
+    private static int innermostDispatchFrame(StackTraceElement[] stack) {
+        for (int i = 0; i < stack.length; i++) {
+            String className = stack[i].getClassName();
+            String method = stack[i].getMethodName();
+            if ((className.equals("java.awt.EventQueue") && method.equals("dispatchEvent"))
+                    || (className.equals("java.awt.EventDispatchThread") && method.startsWith("pumpEvents"))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isApplicationFrame(StackTraceElement frame) {
+        String className = frame.getClassName();
+        return !(className.startsWith("java.") || className.startsWith("javax.")
+                || className.startsWith("sun.") || className.startsWith("jdk.")
+                || className.startsWith("com.sun.") || className.startsWith("EdtWatchdog")
+                || className.contains("$$Lambda"));
+    }
+
+    /**
+     * Fixed-size file holding the most recent samples. The header stores the slot
+     * layout and the next sequence number; sample N goes to slot N % slotCount and
+     * is truncated to the slot size.
+     */
+    static final class StallRingFile {
+        private static final int MAGIC = 0x45445457; // "EDTW"
+        private static final int HEADER_SIZE = 64;
+        private static final int SLOT_SIZE = 8192;
+        private static final int NEXT_SEQUENCE_OFFSET = 12;
+
+        private final FileChannel channel;
+        private final int slotCount;
+        private long nextSequence;
+
+        private StallRingFile(FileChannel channel, int slotCount, long nextSequence) {
+            this.channel = channel;
+            this.slotCount = slotCount;
+            this.nextSequence = nextSequence;
+        }
+
+        /**
+         * Locks the ring file and keeps appending to it, or starts a new one if the file
+         * is missing or has a different layout. Returns null if another process holds
+         * the lock. The lock is held until the JVM exits.
+         */
+        static StallRingFile open(Path file, int slotCount) throws IOException {
+            if (slotCount <= 0) {
+                throw new IllegalArgumentException("Slot count must be positive.");
+            }
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                channel.close();
+                return null;
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() >= NEXT_SEQUENCE_OFFSET + 8 && header.getInt(0) == MAGIC
+                    && header.getInt(4) == SLOT_SIZE && header.getInt(8) == slotCount) {
+                return new StallRingFile(channel, slotCount, header.getLong(NEXT_SEQUENCE_OFFSET));
+            }
+
+            channel.truncate(0);
+            StallRingFile ring = new StallRingFile(channel, slotCount, 0);
+            ring.writeHeader();
+            return ring;
+        }
+
+        /**
+         * Opens a ring file read-only, taking the layout from its header.
+         */
+        static StallRingFile openForReading(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.position() < NEXT_SEQUENCE_OFFSET + 8 || header.getInt(0) != MAGIC
+                    || header.getInt(4) != SLOT_SIZE || header.getInt(8) <= 0) {
+                channel.close();
+                throw new IOException("Not an EDT stall ring file: " + file);
+            }
+            return new StallRingFile(channel, header.getInt(8), header.getLong(NEXT_SEQUENCE_OFFSET));
+        }
+
+        synchronized void append(String sample) throws IOException {
+            long sequence = nextSequence;
+            byte[] text = ("#" + sequence + " " + sample).getBytes(StandardCharsets.UTF_8);
+
+            ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+            slot.put(text, 0, Math.min(text.length, SLOT_SIZE));
+            slot.clear();
+            channel.write(slot, slotPosition(sequence));
+
+            nextSequence = sequence + 1;
+            writeHeader();
+        }
+
+        /**
+         * Samples currently held, oldest first.
+         */
+        synchronized String[] readAll() throws IOException {
+            long first = Math.max(0, nextSequence - slotCount);
+            String[] samples = new String[(int) (nextSequence - first)];
+            for (long sequence = first; sequence < nextSequence; sequence++) {
+                ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+                channel.read(slot, slotPosition(sequence));
+                int length = 0;
+                while (length < slot.position() && slot.get(length) != 0) {
+                    length++;
+                }
+                samples[(int) (sequence - first)] = new String(slot.array(), 0, length, StandardCharsets.UTF_8);
+            }
+            return samples;
+        }
+
+        private long slotPosition(long sequence) {
+            return HEADER_SIZE + (sequence % slotCount) * (long) SLOT_SIZE;
+        }
+
+        private void writeHeader() throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(SLOT_SIZE).putInt(slotCount).putLong(nextSequence);
+            header.clear();
+            channel.write(header, 0);
+        }
+    }
+
+    /**
+     * Prints the samples stored in a ring file, oldest first.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java EdtWatchdog <ring file>");
+            return;
+        }
+        Path file = Paths.get(args[0]);
+        StallRingFile ring = StallRingFile.openForReading(file);
+        String[] samples = ring.readAll();
+        if (samples.length == 0) {
+            System.out.println("No EDT stalls recorded in " + file);
+        }
+        for (String sample : samples) {
+            System.out.println(sample);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Checks EdtWatchdog's stall attribution on sample EDT stacks.
+ *
+ * Usage: java EdtWatchdogCheck   (exits with status 1 if any attribution is wrong)
+ */
+public final class EdtWatchdogCheck {
+
+    private EdtWatchdogCheck() {
+    }
+
+    private static StackTraceElement frame(String className, String method, String file, int line) {
+        return new StackTraceElement(className, method, file, line);
+    }
+
+    /**
+     * Runs EdtWatchdog.findHandler on sample EDT stacks, including a paint stalled inside a modal
+     * dialog's nested event loop. Returns false if any attribution is wrong.
+     */
+    private static boolean checkHandlerAttribution() {
+        StackTraceElement[] plainHandler = {
+            frame("java.lang.Thread", "sleep", null, -2),
+            frame("BankGUI", "actionPerformed", "BankGUI.java", 275),
+            frame("javax.swing.AbstractButton", "fireActionPerformed", "AbstractButton.java", 1972),
+            frame("java.awt.EventQueue", "dispatchEvent", "EventQueue.java", 746),
+            frame("java.awt.EventDispatchThread", "pumpOneEventForFilters", "EventDispatchThread.java", 203),
+            frame("java.awt.EventDispatchThread", "pumpEvents", "EventDispatchThread.java", 113),
+            frame("java.awt.EventDispatchThread", "run", "EventDispatchThread.java", 90),
+        };
+        StackTraceElement[] paintInsideDialog = {
+            frame("java.lang.Thread", "sleep", null, -2),
+            frame("BankGUI$GlassButtonPanel", "paintComponent", "BankGUI.java", 210),
+            frame("javax.swing.JComponent", "paint", "JComponent.java", 1128),
+            frame("javax.swing.RepaintManager", "paintDirtyRegions", "RepaintManager.java", 1847),
+            frame("java.awt.EventQueue", "dispatchEvent", "EventQueue.java", 746),
+            frame("java.awt.EventDispatchThread", "pumpOneEventForFilters", "EventDispatchThread.java", 203),
+            frame("java.awt.EventDispatchThread", "pumpEventsForFilter", "EventDispatchThread.java", 124),
+            frame("java.awt.WaitDispatchSupport", "enter", "WaitDispatchSupport.java", 236),
+            frame("java.awt.Dialog", "show", "Dialog.java", 1084),
+            frame("javax.swing.JOptionPane", "showMessageDialog", "JOptionPane.java", 666),
+            frame("BankGUI", "actionPerformed", "BankGUI.java", 275),
+            frame("javax.swing.AbstractButton", "fireActionPerformed", "AbstractButton.java", 1972),
+            frame("java.awt.EventQueue", "dispatchEvent", "EventQueue.java", 746),
+            frame("java.awt.EventDispatchThread", "pumpOneEventForFilters", "EventDispatchThread.java", 203),
+            frame("java.awt.EventDispatchThread", "pumpEvents", "EventDispatchThread.java", 113),
+            frame("java.awt.EventDispatchThread", "run", "EventDispatchThread.java", 90),
+        };
+        StackTraceElement[] noDispatchFrame = {
+            frame("java.lang.Thread", "sleep", null, -2),
+            frame("StudentRegistrationGUI", "registerStudent", "StudentRegistrationGUI.java", 120),
+            frame("StudentRegistrationGUI", "actionPerformed", "StudentRegistrationGUI.java", 80),
+        };
+
+        return expectHandler("plain handler", plainHandler, "BankGUI.actionPerformed")
+                & expectHandler("paint inside modal dialog", paintInsideDialog, "BankGUI$GlassButtonPanel.paintComponent")
+                & expectHandler("no dispatch frame", noDispatchFrame, "StudentRegistrationGUI.actionPerformed");
+    }
+
+    private static boolean expectHandler(String name, StackTraceElement[] stack, String expected) {
+        String handler = EdtWatchdog.findHandler(stack);
+        boolean ok = handler.startsWith(expected + "(");
+        System.out.println((ok ? "ok   " : "FAIL ") + name + ": " + handler);
+        return ok;
+    }
+
+    public static void main(String[] args) {
+        if (!checkHandlerAttribution()) {
+            System.exit(1);
+        }
+    }
+}
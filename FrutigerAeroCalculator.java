@@ -22,6 +22,11 @@ public class FrutigerAeroCalculator extends JFrame implements ActionListener {
     private String lastOperation = "=";
     private boolean isStartingNewNumber = true;
 
+    // --- Metrics ---
+    private static final AppMetrics.Timer CALCULATION_TIMER = AppMetrics.timer("calculator.calculate");
+    private static final AppMetrics.Timer PAINT_TIMER = AppMetrics.timer("calculator.paintComponent");
+    private static final AppMetrics.Counter ERRORS = AppMetrics.counter("calculator.errors");
+
     // --- Button Labels for the Grid ---
     private final String[] buttonLabels = {
             "AC", "+/-", "%", "÷",
@@ -152,6 +157,7 @@ public class FrutigerAeroCalculator extends JFrame implements ActionListener {
 
         @Override
         protected void paintComponent(Graphics g) {
+            long paintStart = PAINT_TIMER.start();
             super.paintComponent(g);
             Graphics2D g2 = (Graphics2D) g.create();
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -182,6 +188,7 @@ public class FrutigerAeroCalculator extends JFrame implements ActionListener {
             g2.draw(new RoundRectangle2D.Float(0, 0, w - 1, h - 1, arc, arc));
 
             g2.dispose();
+            PAINT_TIMER.stop(paintStart);
         }
     }
 
@@ -268,6 +275,7 @@ public class FrutigerAeroCalculator extends JFrame implements ActionListener {
     }
 
     private void calculate(double secondOperand) {
+        long calculationStart = CALCULATION_TIMER.start();
         try {
             switch (lastOperation) {
                 case "+": currentResult += secondOperand; break;
@@ -275,7 +283,7 @@ public class FrutigerAeroCalculator extends JFrame implements ActionListener {
                 case "*": currentResult *= secondOperand; break;
                 case "/":
                     if (secondOperand != 0) { currentResult /= secondOperand; } 
-                    else { display.setText("Error"); currentResult = 0; lastOperation = "="; return; }
+                    else { display.setText("Error"); currentResult = 0; lastOperation = "="; ERRORS.increment(); return; }
                     break;
                 case "=": currentResult = secondOperand; break;
             }
@@ -283,6 +291,9 @@ public class FrutigerAeroCalculator extends JFrame implements ActionListener {
         } catch (Exception ex) {
             display.setText("Error");
             currentResult = 0; lastOperation = "=";
+            ERRORS.increment();
+        } finally {
+            CALCULATION_TIMER.stop(calculationStart);
         }
     }
     
@@ -298,6 +309,7 @@ public class FrutigerAeroCalculator extends JFrame implements ActionListener {
      * Main method to run the application.
      */
     public static void main(String[] args) {
+        EdtWatchdog.install();
         SwingUtilities.invokeLater(FrutigerAeroCalculator::new);
     }
 }
\ No newline at end of file
@@ -0,0 +1,207 @@
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates a registration-window rush: many threads register students for the
+ * same few popular courses at once, then the run is checked for overbooking and
+ * reported for throughput and fairness.
+ *
+ * Usage: java RegistrationStormSimulator [threads] [students] [coursesPerStudent]
+ */
+public class RegistrationStormSimulator {
+
+    private final CourseCatalog catalog;
+    private final int threads;
+    private final int students;
+    private final int coursesPerStudent;
+
+    // Outcome counters across all threads
+    private final Map<CourseCatalog.Outcome, AtomicLong> outcomes = new ConcurrentHashMap<>();
+
+    public RegistrationStormSimulator(CourseCatalog catalog, int threads, int students, int coursesPerStudent) {
+        int courseCount = catalog.getCourses().size();
+        if (coursesPerStudent < 1 || coursesPerStudent > courseCount) {
+            throw new IllegalArgumentException("Courses per student must be between 1 and " + courseCount + ".");
+        }
+        this.catalog = catalog;
+        this.threads = threads;
+        this.students = students;
+        this.coursesPerStudent = coursesPerStudent;
+        for (CourseCatalog.Outcome outcome : CourseCatalog.Outcome.values()) {
+            outcomes.put(outcome, new AtomicLong());
+        }
+    }
+
+    /**
+     * Runs the storm and prints the report. Returns false if any invariant was violated.
+     */
+    public boolean run() throws InterruptedException {
+        List<CourseCatalog.Course> courses = catalog.getCourses();
+        long[] requestsPerThread = new long[threads];
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch startGate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            final int worker = t;
+            pool.execute(() -> {
+                try {
+                    startGate.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    // Students are split evenly between workers
+                    for (int s = worker; s < students; s += threads) {
+                        String studentId = "S" + s;
+                        for (int index : pickDistinctCourses(random, courses.size(), coursesPerStudent)) {
+                            CourseCatalog.Course course = courses.get(index);
+                            CourseCatalog.Outcome outcome = catalog.register(studentId, course.getCode());
+                            outcomes.get(outcome).incrementAndGet();
+                            requestsPerThread[worker]++;
+                            // Occasionally change one's mind and free the seat again
+                            if (outcome == CourseCatalog.Outcome.ENROLLED && random.nextInt(20) == 0) {
+                                catalog.drop(studentId, course.getCode());
+                            }
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        startGate.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+
+        return report(courses, requestsPerThread, elapsed);
+    }
+
+    /**
+     * Skews demand toward the first courses so that a few of them become hot spots.
+     */
+    private static int pickCourse(ThreadLocalRandom random, int courseCount) {
+        double skewed = Math.pow(random.nextDouble(), 2.0);
+        return Math.min(courseCount - 1, (int) (skewed * courseCount));
+    }
+
+    /**
+     * Skewed pick of distinct courses (without replacement), so a student never asks for
+     * the same course twice and ALREADY_REGISTERED only comes from the allocator itself.
+     */
+    private static int[] pickDistinctCourses(ThreadLocalRandom random, int courseCount, int count) {
+        boolean[] taken = new boolean[courseCount];
+        int[] picks = new int[count];
+        for (int i = 0; i < count; i++) {
+            int index;
+            do {
+                index = pickCourse(random, courseCount);
+            } while (taken[index]);
+            taken[index] = true;
+            picks[i] = index;
+        }
+        return picks;
+    }
+
+    private boolean report(List<CourseCatalog.Course> courses, long[] requestsPerThread, long elapsedNanos) {
+        long totalRequests = 0;
+        for (long requests : requestsPerThread) {
+            totalRequests += requests;
+        }
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        System.out.println("=== Registration Storm ===");
+        System.out.printf("Threads: %d, Students: %d, Courses per student: %d%n", threads, students, coursesPerStudent);
+        System.out.printf("Requests: %d in %.3f s (%.0f req/s)%n", totalRequests, seconds, totalRequests / seconds);
+        for (CourseCatalog.Outcome outcome : CourseCatalog.Outcome.values()) {
+            System.out.printf("  %-18s %d%n", outcome, outcomes.get(outcome).get());
+        }
+
+        boolean ok = true;
+        System.out.println("--- Courses ---");
+        for (CourseCatalog.Course course : courses) {
+            boolean overbooked = course.getSeatsTaken() > course.getCapacity()
+                    || course.getSeatsTaken() != course.countEnrolled()
+                    || course.getWaitlistSize() > course.getWaitlistCapacity();
+            // Once all threads are done, nobody may be left waiting while a seat is free
+            boolean strandedWaitlist = course.getSeatsTaken() < course.getCapacity()
+                    && course.getWaitlistSize() > 0;
+            ok &= !overbooked && !strandedWaitlist;
+            System.out.printf("  %-6s seats %4d/%-4d waitlist %4d/%-4d %s%n",
+                    course.getCode(), course.getSeatsTaken(), course.getCapacity(),
+                    course.getWaitlistSize(), course.getWaitlistCapacity(),
+                    overbooked ? "OVERBOOKED" : strandedWaitlist ? "WAITLIST STRANDED" : "ok");
+        }
+
+        // Final seats held by each student, including waitlist promotions and minus drops
+        long[] seatsPerStudent = new long[students];
+        long studentsWithoutSeat = 0;
+        for (int s = 0; s < students; s++) {
+            String studentId = "S" + s;
+            for (CourseCatalog.Course course : courses) {
+                if (course.isEnrolled(studentId)) {
+                    seatsPerStudent[s]++;
+                }
+            }
+            if (seatsPerStudent[s] == 0) {
+                studentsWithoutSeat++;
+            }
+        }
+
+        System.out.println("--- Fairness ---");
+        System.out.printf("  Jain index (seats held per student): %.4f%n", jainIndex(seatsPerStudent));
+        System.out.printf("  Students without any seat: %d (%.1f%%)%n",
+                studentsWithoutSeat, 100.0 * studentsWithoutSeat / students);
+        System.out.println(ok ? "Result: all seat invariants hold." : "Result: SEAT INVARIANT VIOLATED!");
+        return ok;
+    }
+
+    /**
+     * Jain's fairness index: 1.0 when everyone got the same share, 1/n when one got everything.
+     */
+    private static double jainIndex(long[] values) {
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (long value : values) {
+            sum += value;
+            sumOfSquares += (double) value * value;
+        }
+        return sumOfSquares == 0 ? 1.0 : (sum * sum) / (values.length * sumOfSquares);
+    }
+
+    /**
+     * Builds a catalog where roughly half of all requests can get a seat, so the hot courses overflow.
+     */
+    private static CourseCatalog createStormCatalog(int totalRequests) {
+        CourseCatalog catalog = new CourseCatalog();
+        int courseCount = 12;
+        int seatsPerCourse = Math.max(1, totalRequests / (2 * courseCount));
+        for (int i = 0; i < courseCount; i++) {
+            catalog.addCourse(String.format("C%03d", 100 + i), "Course " + (i + 1), seatsPerCourse, seatsPerCourse / 4);
+        }
+        return catalog;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 4;
+        int students = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int coursesPerStudent = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        CourseCatalog catalog = createStormCatalog(students * coursesPerStudent);
+        boolean ok = new RegistrationStormSimulator(catalog, threads, students, coursesPerStudent).run();
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+}
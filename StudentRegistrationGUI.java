@@ -2,29 +2,43 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.Locale;
 
 public class StudentRegistrationGUI extends JFrame implements ActionListener {
 
     // GUI Components
-    private JLabel nameLabel, courseLabel, phoneLabel, addressLabel;
-    private JTextField nameField, courseField, phoneField;
+    private JLabel idLabel, nameLabel, courseLabel, phoneLabel, addressLabel;
+    private JTextField idField, nameField, phoneField;
+    private JComboBox<CourseCatalog.Course> courseBox;
     private JTextArea addressArea;
     private JButton submitButton;
 
-    public StudentRegistrationGUI() {
+    // Courses with seat limits and waitlists
+    private final CourseCatalog catalog;
+
+    // --- Metrics ---
+    private static final AppMetrics.Timer VALIDATION_TIMER = AppMetrics.timer("registration.validate");
+    private static final AppMetrics.Timer SUBMIT_TIMER = AppMetrics.timer("registration.submit");
+    private static final AppMetrics.Counter VALIDATION_FAILURES = AppMetrics.counter("registration.validate.failed");
+
+    public StudentRegistrationGUI(CourseCatalog catalog) {
         super("Student Registration Form (GUI)");
+        this.catalog = catalog;
         setLayout(new GridBagLayout());
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(10, 10, 10, 10);
         
         // --- 1. Initialize Components ---
+        idLabel = new JLabel("Student ID:");
         nameLabel = new JLabel("Name:");
         courseLabel = new JLabel("Course:");
         phoneLabel = new JLabel("Phone (10 digits):");
         addressLabel = new JLabel("Address:");
 
+        idField = new JTextField(20);
         nameField = new JTextField(20);
-        courseField = new JTextField(20);
+        courseBox = new JComboBox<>(catalog.getCourses().toArray(new CourseCatalog.Course[0]));
+        courseBox.setSelectedIndex(-1);
         phoneField = new JTextField(20);
         addressArea = new JTextArea(3, 20);
         addressArea.setBorder(BorderFactory.createLineBorder(Color.gray));
@@ -34,24 +48,28 @@ public class StudentRegistrationGUI extends JFrame implements ActionListener {
 
         // --- 2. Layout Management (GridBagLayout) ---
         
+        // Student ID Row
+        gbc.gridx = 0; gbc.gridy = 0; gbc.anchor = GridBagConstraints.EAST; add(idLabel, gbc);
+        gbc.gridx = 1; gbc.gridy = 0; gbc.anchor = GridBagConstraints.WEST; add(idField, gbc);
+
         // Name Row
-        gbc.gridx = 0; gbc.gridy = 0; gbc.anchor = GridBagConstraints.EAST; add(nameLabel, gbc);
-        gbc.gridx = 1; gbc.gridy = 0; gbc.anchor = GridBagConstraints.WEST; add(nameField, gbc);
+        gbc.gridx = 0; gbc.gridy = 1; gbc.anchor = GridBagConstraints.EAST; add(nameLabel, gbc);
+        gbc.gridx = 1; gbc.gridy = 1; gbc.anchor = GridBagConstraints.WEST; add(nameField, gbc);
 
         // Course Row
-        gbc.gridx = 0; gbc.gridy = 1; gbc.anchor = GridBagConstraints.EAST; add(courseLabel, gbc);
-        gbc.gridx = 1; gbc.gridy = 1; gbc.anchor = GridBagConstraints.WEST; add(courseField, gbc);
+        gbc.gridx = 0; gbc.gridy = 2; gbc.anchor = GridBagConstraints.EAST; add(courseLabel, gbc);
+        gbc.gridx = 1; gbc.gridy = 2; gbc.anchor = GridBagConstraints.WEST; add(courseBox, gbc);
 
         // Phone Row
-        gbc.gridx = 0; gbc.gridy = 2; gbc.anchor = GridBagConstraints.EAST; add(phoneLabel, gbc);
-        gbc.gridx = 1; gbc.gridy = 2; gbc.anchor = GridBagConstraints.WEST; add(phoneField, gbc);
+        gbc.gridx = 0; gbc.gridy = 3; gbc.anchor = GridBagConstraints.EAST; add(phoneLabel, gbc);
+        gbc.gridx = 1; gbc.gridy = 3; gbc.anchor = GridBagConstraints.WEST; add(phoneField, gbc);
 
         // Address Row
-        gbc.gridx = 0; gbc.gridy = 3; gbc.anchor = GridBagConstraints.NORTHWEST; add(addressLabel, gbc);
-        gbc.gridx = 1; gbc.gridy = 3; gbc.anchor = GridBagConstraints.WEST; add(new JScrollPane(addressArea), gbc);
+        gbc.gridx = 0; gbc.gridy = 4; gbc.anchor = GridBagConstraints.NORTHWEST; add(addressLabel, gbc);
+        gbc.gridx = 1; gbc.gridy = 4; gbc.anchor = GridBagConstraints.WEST; add(new JScrollPane(addressArea), gbc);
 
         // Submit Button Row
-        gbc.gridx = 1; gbc.gridy = 4; gbc.anchor = GridBagConstraints.CENTER; add(submitButton, gbc);
+        gbc.gridx = 1; gbc.gridy = 5; gbc.anchor = GridBagConstraints.CENTER; add(submitButton, gbc);
 
         // --- 3. Frame Setup ---
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -64,54 +82,92 @@ public class StudentRegistrationGUI extends JFrame implements ActionListener {
     @Override
     public void actionPerformed(ActionEvent e) {
         if (e.getSource() == submitButton) {
-            if (validateInput()) {
-                // Since no database is required, we just display success
-                displaySuccess();
+            long validationStart = VALIDATION_TIMER.start();
+            String validationError = validateInput();
+            VALIDATION_TIMER.stop(validationStart);
+            if (validationError != null) {
+                VALIDATION_FAILURES.increment();
+                JOptionPane.showMessageDialog(this, validationError, "Validation Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                // Since no database is required, seats are held in memory
+                registerStudent();
             }
         }
     }
 
-    // --- 5. Input Validation ---
-    private boolean validateInput() {
+    // --- 5. Input Validation (returns an error message, or null if valid) ---
+    private String validateInput() {
+        String studentId = idField.getText().trim();
         String name = nameField.getText().trim();
-        String course = courseField.getText().trim();
+        CourseCatalog.Course course = (CourseCatalog.Course) courseBox.getSelectedItem();
         String phone = phoneField.getText().trim();
 
-        // Check 1: Mandatory fields (Name and Course)
-        if (name.isEmpty() || course.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "Name and Course fields are mandatory.", "Validation Error", JOptionPane.ERROR_MESSAGE);
-            return false;
+        // Check 1: Mandatory fields (Student ID, Name and Course)
+        if (studentId.isEmpty() || name.isEmpty() || course == null) {
+            return "Student ID, Name and Course fields are mandatory.";
+        }
+
+        // Check 2: Student ID is letters and digits only
+        if (!studentId.matches("[A-Za-z0-9]+")) {
+            return "Student ID may only contain letters and digits.";
         }
 
-        // Check 2: Simple Phone number validation (exactly 10 digits)
+        // Check 3: Simple Phone number validation (exactly 10 digits)
         if (!phone.isEmpty() && !phone.matches("\\d{10}")) {
-            JOptionPane.showMessageDialog(this, "Phone number must be exactly 10 digits.", "Validation Error", JOptionPane.ERROR_MESSAGE);
-            return false;
+            return "Phone number must be exactly 10 digits.";
         }
-        return true;
+        return null;
     }
 
-    // --- 6. Success Message and Clear Fields ---
-    private void displaySuccess() {
+    // --- 6. Seat Allocation ---
+    private void registerStudent() {
+        // Seats are keyed by student ID, not name: two students may share a name.
+        // IDs are case-insensitive, so "s1001" and "S1001" are the same student.
+        String studentId = idField.getText().trim().toUpperCase(Locale.ROOT);
         String name = nameField.getText().trim();
-        String course = courseField.getText().trim();
-        
+        CourseCatalog.Course course = (CourseCatalog.Course) courseBox.getSelectedItem();
+
+        long submitStart = SUBMIT_TIMER.start();
+        CourseCatalog.Outcome outcome = catalog.register(studentId, course.getCode());
+        SUBMIT_TIMER.stop(submitStart);
+
+        switch (outcome) {
+            case ENROLLED:
+                displaySuccess(studentId, name, course, "Successfully Registered");
+                break;
+            case WAITLISTED:
+                displaySuccess(studentId, name, course, "Course is full - added to the waitlist");
+                break;
+            case ALREADY_REGISTERED:
+                JOptionPane.showMessageDialog(this, "Student " + studentId + " is already registered for " + course.getCode() + ".", "Registration Error", JOptionPane.WARNING_MESSAGE);
+                break;
+            default:
+                JOptionPane.showMessageDialog(this, course.getCode() + " and its waitlist are full.", "Registration Error", JOptionPane.WARNING_MESSAGE);
+                break;
+        }
+    }
+
+    // --- 7. Success Message and Clear Fields ---
+    private void displaySuccess(String studentId, String name, CourseCatalog.Course course, String status) {
         // Display confirmation
         JOptionPane.showMessageDialog(this, 
-            "Successfully Registered:\nName: " + name + "\nCourse: " + course, 
+            status + ":\nStudent ID: " + studentId + "\nName: " + name + "\nCourse: " + course.getCode() + " - " + course.getTitle(), 
             "Registration Complete", 
             JOptionPane.INFORMATION_MESSAGE
         );
         
         // Clear fields
+        idField.setText("");
         nameField.setText("");
-        courseField.setText("");
+        courseBox.setSelectedIndex(-1);
+        courseBox.repaint(); // Seat counts changed
         phoneField.setText("");
         addressArea.setText("");
     }
 
     public static void main(String[] args) {
+        EdtWatchdog.install();
         // Run the GUI creation on the Event Dispatch Thread (Swing best practice)
-        SwingUtilities.invokeLater(() -> new StudentRegistrationGUI());
+        SwingUtilities.invokeLater(() -> new StudentRegistrationGUI(CourseCatalog.createDefault()));
     }
 }
\ No newline at end of file